@@ -0,0 +1,85 @@
+package com.algorithm.kmp;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+
+// Inputs that drive KMP through long lps[j - 1] fallback chains, as opposed to
+// the sparse, friendly texts used by the functional tests. Texts are built as
+// single-byte (Latin-1) arrays so they can reach 1 GB without doubling in size.
+public class AdversarialWorkloads {
+
+    public enum Family {
+        // Fibonacci word searched for one of its own prefixes: many near-matches
+        // with deeply nested borders
+        FIBONACCI,
+        // a^N searched for a^(m-1) b: every position after the first m-1 fails
+        // on the final character
+        UNARY_MISS,
+        // (a^(m-1) c)* searched for a^(m-1) b: each 'c' walks the whole
+        // lps chain m-2, m-3, ..., 0 before moving on
+        CHAIN_COLLAPSE
+    }
+
+    public static byte[] text(Family family, int n, int m) {
+        if (m <= 0) {
+            throw new IllegalArgumentException("Pattern length must be positive");
+        }
+        switch (family) {
+            case FIBONACCI:
+                return fibonacciWord(n);
+            case UNARY_MISS:
+                return repeat((byte) 'a', n);
+            case CHAIN_COLLAPSE: {
+                byte[] text = repeat((byte) 'a', n);
+                for (int i = m - 1; i < n; i += m) {
+                    text[i] = 'c';
+                }
+                return text;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown family: " + family);
+        }
+    }
+
+    public static String pattern(Family family, int m) {
+        if (m <= 0) {
+            throw new IllegalArgumentException("Pattern length must be positive");
+        }
+        if (family == Family.FIBONACCI) {
+            return new String(fibonacciWord(m), StandardCharsets.ISO_8859_1);
+        }
+        byte[] pattern = repeat((byte) 'a', m);
+        pattern[m - 1] = 'b';
+        return new String(pattern, StandardCharsets.ISO_8859_1);
+    }
+
+    // Prefix of length n of the infinite Fibonacci word abaababaabaab...
+    // Built from f(k) = f(k-1) f(k-2), using that f(k-2) is a prefix of f(k-1).
+    public static byte[] fibonacciWord(int n) {
+        byte[] word = new byte[n];
+        if (n == 0) {
+            return word;
+        }
+        word[0] = 'a';
+        if (n > 1) {
+            word[1] = 'b';
+        }
+
+        int previous = 1; // |f(k-1)|
+        int current = 2;  // |f(k)|
+        while (current < n) {
+            int copy = Math.min(previous, n - current);
+            System.arraycopy(word, 0, word, current, copy);
+            previous = current;
+            current += copy;
+        }
+        return word;
+    }
+
+    private static byte[] repeat(byte value, int n) {
+        byte[] bytes = new byte[n];
+        Arrays.fill(bytes, value);
+        return bytes;
+    }
+}
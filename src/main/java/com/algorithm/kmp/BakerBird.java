@@ -0,0 +1,335 @@
+package com.algorithm.kmp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+
+// Two-dimensional exact matching (Baker-Bird). An Aho-Corasick automaton over
+// the pattern's rows labels every text cell with the id of the pattern row
+// that ends there, then KMP runs down each column over those labels looking
+// for the pattern's sequence of row ids. Runs in O(rows * cols) after
+// O(pattern size) preprocessing, plus O(states * alphabet) when the full
+// transition table is small enough to build. Matches are reported as
+// {row, col} of the top-left corner, in row-major order.
+public class BakerBird {
+
+    // Largest full transition table built (16 MB of ints). Bigger automata,
+    // e.g. bitmap tiles with thousands of distinct pixel values, follow
+    // failure links on the sparse trie instead.
+    static final long DENSE_LIMIT = 1 << 22;
+
+    private final int patternHeight;
+    private final int patternWidth;
+
+    // Aho-Corasick automaton: trie edges plus failure links, and the full
+    // transition table over the pattern's alphabet when it fits DENSE_LIMIT
+    private final int[] symbols;   // char -> alphabet index, -1 if not in pattern
+    private final int alphabet;
+    private final Edges edges;     // (state, char) -> child state in the trie
+    private final int[] fail;      // state -> state of its longest proper suffix
+    private final int[] delta;     // state * alphabet + symbol -> next state, or null
+    private final int[] rowId;     // state -> id of the pattern row it completes, or -1
+
+    // KMP over the column sequence of row ids
+    private final int[] rowSequence;
+    private final int[] lps;
+
+    private BakerBird(char[][] pattern, long denseLimit) {
+        patternHeight = pattern.length;
+        patternWidth = pattern[0].length;
+
+        // Identical pattern rows share an id
+        Map<String, Integer> ids = new HashMap<>();
+        rowSequence = new int[patternHeight];
+        for (int r = 0; r < patternHeight; r++) {
+            rowSequence[r] = ids.computeIfAbsent(new String(pattern[r]), row -> ids.size());
+        }
+        lps = computeLPSArray(rowSequence);
+        String[] rows = new String[ids.size()];
+        for (Map.Entry<String, Integer> row : ids.entrySet()) {
+            rows[row.getValue()] = row.getKey();
+        }
+
+        int maxChar = 0;
+        for (char[] row : pattern) {
+            for (char c : row) {
+                maxChar = Math.max(maxChar, c);
+            }
+        }
+        symbols = new int[maxChar + 1];
+        Arrays.fill(symbols, -1);
+        int size = 0;
+        for (char[] row : pattern) {
+            for (char c : row) {
+                if (symbols[c] < 0) {
+                    symbols[c] = size++;
+                }
+            }
+        }
+        alphabet = size;
+
+        long maxStates = (long) rows.length * patternWidth + 1;
+        if (maxStates > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Pattern too large: " + maxStates + " automaton states");
+        }
+
+        // Build the trie over the distinct rows one depth at a time, so every
+        // failure link can be resolved from the shallower states already built.
+        // All rows have the same width, so only full-depth states can complete a
+        // row and no output needs to be inherited along failure links.
+        edges = new Edges((int) maxStates - 1);
+        int[] links = new int[(int) maxStates];
+        int[] cursor = new int[rows.length]; // state each row has reached
+        int states = 1;
+        for (int i = 0; i < patternWidth; i++) {
+            for (int r = 0; r < rows.length; r++) {
+                char c = rows[r].charAt(i);
+                int next = edges.get(cursor[r], c);
+                if (next < 0) {
+                    next = states++;
+                    edges.put(cursor[r], c, next);
+                    links[next] = i == 0 ? 0 : follow(edges, links, links[cursor[r]], c);
+                }
+                cursor[r] = next;
+            }
+        }
+        fail = Arrays.copyOf(links, states);
+        rowId = new int[states];
+        Arrays.fill(rowId, -1);
+        for (int r = 0; r < rows.length; r++) {
+            rowId[cursor[r]] = r;
+        }
+
+        // States are numbered breadth-first, so fail[state] < state and each
+        // row of the table can copy its missing entries from an earlier one
+        if ((long) states * alphabet <= denseLimit) {
+            char[] chars = new char[alphabet];
+            for (int c = 0; c < symbols.length; c++) {
+                if (symbols[c] >= 0) {
+                    chars[symbols[c]] = (char) c;
+                }
+            }
+            delta = new int[states * alphabet];
+            for (int state = 0; state < states; state++) {
+                for (int a = 0; a < alphabet; a++) {
+                    int next = edges.get(state, chars[a]);
+                    if (next < 0) {
+                        next = state == 0 ? 0 : delta[fail[state] * alphabet + a];
+                    }
+                    delta[state * alphabet + a] = next;
+                }
+            }
+        } else {
+            delta = null;
+        }
+    }
+
+    public static List<int[]> search(String[] text, String[] pattern) {
+        return search(toGrid(text), toGrid(pattern));
+    }
+
+    public static List<int[]> search(char[][] text, char[][] pattern) {
+        return search(text, pattern, DENSE_LIMIT);
+    }
+
+    static List<int[]> search(char[][] text, char[][] pattern, long denseLimit) {
+        if (!canMatch(text, pattern)) {
+            return new ArrayList<>();
+        }
+        BakerBird matcher = new BakerBird(pattern, denseLimit);
+        return matcher.searchBand(text, 0, text[0].length);
+    }
+
+    // Splits the text into vertical bands searched concurrently. Each band
+    // re-reads the patternWidth - 1 columns to its left so that rows ending
+    // at its first columns are still labelled.
+    public static List<int[]> searchParallel(char[][] text, char[][] pattern, int bands) {
+        if (bands <= 0) {
+            throw new IllegalArgumentException("Number of bands must be positive");
+        }
+        if (!canMatch(text, pattern)) {
+            return new ArrayList<>();
+        }
+        BakerBird matcher = new BakerBird(pattern, DENSE_LIMIT);
+
+        int width = text[0].length;
+        int first = matcher.patternWidth - 1; // leftmost column a match can end in
+        int span = width - first;
+        int count = Math.min(bands, span);
+
+        return IntStream.range(0, count).parallel()
+                .mapToObj(band -> matcher.searchBand(text,
+                        first + (int) ((long) span * band / count),
+                        first + (int) ((long) span * (band + 1) / count)))
+                .flatMap(List::stream)
+                .sorted(Comparator.<int[]>comparingInt(m -> m[0]).thenComparingInt(m -> m[1]))
+                .collect(Collectors.toList());
+    }
+
+    // Finds matches whose right edge lies in columns [fromCol, toCol)
+    private List<int[]> searchBand(char[][] text, int fromCol, int toCol) {
+        List<int[]> matches = new ArrayList<>();
+
+        int start = Math.max(0, fromCol - patternWidth + 1);
+        int firstEnd = Math.max(fromCol, patternWidth - 1);
+        int[] column = new int[toCol - fromCol]; // KMP state per column
+
+        for (int r = 0; r < text.length; r++) {
+            char[] row = text[r];
+            int state = 0;
+
+            for (int c = start; c < toCol; c++) {
+                char ch = row[c];
+                int symbol = ch < symbols.length ? symbols[ch] : -1;
+                if (symbol < 0) {
+                    state = 0;
+                } else if (delta != null) {
+                    state = delta[state * alphabet + symbol];
+                } else {
+                    state = follow(edges, fail, state, ch);
+                }
+
+                if (c < firstEnd) {
+                    continue;
+                }
+
+                // Advance this column's KMP over the row id ending at (r, c)
+                int label = rowId[state];
+                int k = c - fromCol;
+                int j = column[k];
+                while (j > 0 && label != rowSequence[j]) {
+                    j = lps[j - 1];
+                }
+                if (label == rowSequence[j]) {
+                    j++;
+                }
+                if (j == patternHeight) {
+                    matches.add(new int[] { r - patternHeight + 1, c - patternWidth + 1 });
+                    j = lps[j - 1];
+                }
+                column[k] = j;
+            }
+        }
+
+        return matches;
+    }
+
+    // Goto function with failure links: the state reached from state on c
+    private static int follow(Edges edges, int[] fail, int state, char c) {
+        while (true) {
+            int next = edges.get(state, c);
+            if (next >= 0) {
+                return next;
+            }
+            if (state == 0) {
+                return 0;
+            }
+            state = fail[state];
+        }
+    }
+
+    private static boolean canMatch(char[][] text, char[][] pattern) {
+        if (text == null || pattern == null || pattern.length == 0 || pattern[0].length == 0) {
+            return false;
+        }
+        checkRectangular(pattern, "Pattern");
+        if (text.length == 0) {
+            return false;
+        }
+        checkRectangular(text, "Text");
+        return pattern.length <= text.length && pattern[0].length <= text[0].length;
+    }
+
+    private static void checkRectangular(char[][] grid, String name) {
+        for (char[] row : grid) {
+            if (row.length != grid[0].length) {
+                throw new IllegalArgumentException(name + " rows must all have the same length");
+            }
+        }
+    }
+
+    private static char[][] toGrid(String[] rows) {
+        if (rows == null) {
+            return null;
+        }
+        char[][] grid = new char[rows.length][];
+        for (int i = 0; i < rows.length; i++) {
+            grid[i] = rows[i].toCharArray();
+        }
+        return grid;
+    }
+
+    private static int[] computeLPSArray(int[] pattern) {
+        int m = pattern.length;
+        int[] lps = new int[m];
+
+        int len = 0;
+        int i = 1;
+
+        while (i < m) {
+            if (pattern[i] == pattern[len]) {
+                len++;
+                lps[i] = len;
+                i++;
+            } else if (len != 0) {
+                len = lps[len - 1];
+            } else {
+                lps[i] = 0;
+                i++;
+            }
+        }
+
+        return lps;
+    }
+
+    // Trie edges in an open-addressing hash table keyed by (state, char), so
+    // memory grows with the number of edges rather than states * alphabet
+    private static final class Edges {
+        private final long[] keys;
+        private final int[] children;
+        private final int mask;
+
+        Edges(int capacity) {
+            int size = Integer.highestOneBit(Math.max(1, capacity)) << 2;
+            if (size <= 0) {
+                throw new IllegalArgumentException("Pattern too large: " + capacity + " trie edges");
+            }
+            keys = new long[size];
+            Arrays.fill(keys, -1);
+            children = new int[size];
+            mask = size - 1;
+        }
+
+        int get(int state, char c) {
+            long key = ((long) state << 16) | c;
+            for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return children[slot];
+                }
+                if (keys[slot] < 0) {
+                    return -1;
+                }
+            }
+        }
+
+        void put(int state, char c, int child) {
+            long key = ((long) state << 16) | c;
+            int slot = slot(key);
+            while (keys[slot] >= 0) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            children[slot] = child;
+        }
+
+        private int slot(long key) {
+            return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.algorithm.kmp;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+// Compiled pattern tables stored in a file and searched directly from a
+// memory mapping, so opening a dictionary costs the same regardless of size.
+// open() only checks the header and offset table; each entry is bounds- and
+// LPS-checked the first time it is used, so a corrupt entry cannot make a
+// search read out of range or loop forever.
+//
+// File layout (big-endian, every section 4-byte aligned):
+//   int magic ("KMPC"), int version, int count
+//   int[count] entry offsets
+//   per entry: int m, char[m] pattern, padding, int[m] LPS array
+public class CompiledPatterns {
+
+    static final int MAGIC = 0x4B4D5043;
+    static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 12;
+
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private final int count;
+    private final AtomicLongArray validated; // one bit per entry that passed validation
+
+    private CompiledPatterns(Path file, MappedByteBuffer buffer, int count) {
+        this.file = file;
+        this.buffer = buffer;
+        this.count = count;
+        this.validated = new AtomicLongArray((count + 63) / 64);
+    }
+
+    public static void write(Path file, List<String> patterns) throws IOException {
+        int[] offsets = new int[patterns.size()];
+        long size = HEADER_SIZE + 4L * patterns.size();
+
+        for (int id = 0; id < patterns.size(); id++) {
+            String pattern = patterns.get(id);
+            if (pattern == null || pattern.isEmpty()) {
+                throw new IllegalArgumentException("Pattern " + id + " must not be empty");
+            }
+            offsets[id] = (int) size;
+            size += entrySize(pattern.length());
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Compiled patterns exceed 2 GB: " + size + " bytes");
+        }
+
+        ByteBuffer out = ByteBuffer.allocate((int) size);
+        out.putInt(MAGIC).putInt(VERSION).putInt(patterns.size());
+        for (int offset : offsets) {
+            out.putInt(offset);
+        }
+
+        for (int id = 0; id < patterns.size(); id++) {
+            String pattern = patterns.get(id);
+            int m = pattern.length();
+
+            out.position(offsets[id]);
+            out.putInt(m);
+            for (int i = 0; i < m; i++) {
+                out.putChar(pattern.charAt(i));
+            }
+            out.position((int) lpsOffset(offsets[id], m));
+            for (int value : KMP.getLPSArray(pattern)) {
+                out.putInt(value);
+            }
+        }
+        out.flip();
+
+        // Other processes may have the current file mapped, and truncating it under
+        // them would crash their next access. Write a new file next to it and
+        // atomically swap it in; existing mappings keep the old inode.
+        Path directory = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            // createTempFile makes the file owner-only, and the move keeps that;
+            // services running as another user still need to map it
+            if (Files.getFileStore(temp).supportsFileAttributeView(PosixFileAttributeView.class)) {
+                Files.setPosixFilePermissions(temp, Files.exists(file)
+                        ? Files.getPosixFilePermissions(file)
+                        : PosixFilePermissions.fromString("rw-r--r--"));
+            }
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (out.hasRemaining()) {
+                    channel.write(out);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public static CompiledPatterns open(Path file) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a compiled pattern file: " + file);
+        }
+        int version = buffer.getInt(4);
+        if (version != VERSION) {
+            throw new IOException("Unsupported compiled pattern format version " + version
+                    + " (expected " + VERSION + "): " + file);
+        }
+        int count = buffer.getInt(8);
+        if (count < 0 || HEADER_SIZE + 4L * count > buffer.capacity()) {
+            throw new IOException("Corrupt compiled pattern file: " + file);
+        }
+
+        return new CompiledPatterns(file, buffer, count);
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int patternLength(int id) {
+        return buffer.getInt(entryOffset(id));
+    }
+
+    public String pattern(int id) {
+        int base = entryOffset(id);
+        int m = buffer.getInt(base);
+        char[] chars = new char[m];
+        for (int i = 0; i < m; i++) {
+            chars[i] = buffer.getChar(base + 4 + 2 * i);
+        }
+        return new String(chars);
+    }
+
+    // Same algorithm as KMP.search, reading the pattern and LPS array straight
+    // from the mapped file instead of copying them onto the heap
+    public List<Integer> search(String text, int id) {
+        List<Integer> matches = new ArrayList<>();
+
+        int base = entryOffset(id);
+        int m = buffer.getInt(base);
+        if (text == null || m > text.length()) {
+            return matches;
+        }
+
+        int n = text.length();
+        int chars = base + 4;
+        int lps = (int) lpsOffset(base, m);
+
+        int i = 0; // index for text
+        int j = 0; // index for pattern
+
+        while (i < n) {
+            if (text.charAt(i) == buffer.getChar(chars + 2 * j)) {
+                i++;
+                j++;
+            }
+
+            if (j == m) {
+                matches.add(i - j);
+                j = buffer.getInt(lps + 4 * (j - 1));
+            } else if (i < n && text.charAt(i) != buffer.getChar(chars + 2 * j)) {
+                if (j != 0) {
+                    j = buffer.getInt(lps + 4 * (j - 1));
+                } else {
+                    i++;
+                }
+            }
+        }
+
+        return matches;
+    }
+
+    private int entryOffset(int id) {
+        if (id < 0 || id >= count) {
+            throw new IndexOutOfBoundsException("Pattern id " + id + " out of range [0, " + count + ")");
+        }
+        int offset = buffer.getInt(HEADER_SIZE + 4 * id);
+        long bit = 1L << id;
+        if ((validated.get(id >>> 6) & bit) == 0) {
+            validate(id, offset);
+            validated.accumulateAndGet(id >>> 6, bit, (bits, b) -> bits | b);
+        }
+        return offset;
+    }
+
+    // O(m) check of one entry: it must lie inside the mapping, and every LPS
+    // value must satisfy 0 <= lps[k] <= k so the search always makes progress
+    private void validate(int id, int offset) {
+        if (offset < HEADER_SIZE + 4L * count || (offset & 3) != 0 || offset > buffer.capacity() - 4) {
+            throw corrupt(id, "invalid offset " + offset);
+        }
+        int m = buffer.getInt(offset);
+        if (m <= 0 || offset + entrySize(m) > buffer.capacity()) {
+            throw corrupt(id, "invalid length " + m);
+        }
+        int lps = (int) lpsOffset(offset, m);
+        for (int k = 0; k < m; k++) {
+            int value = buffer.getInt(lps + 4 * k);
+            if (value < 0 || value > k) {
+                throw corrupt(id, "invalid LPS value " + value + " at " + k);
+            }
+        }
+    }
+
+    private UncheckedIOException corrupt(int id, String reason) {
+        return new UncheckedIOException(new IOException(
+                "Corrupt compiled pattern file: " + file + " (entry " + id + " has " + reason + ")"));
+    }
+
+    private static long entrySize(int m) {
+        return lpsOffset(0, m) + 4L * m;
+    }
+
+    private static long lpsOffset(long base, int m) {
+        long charsEnd = base + 4 + 2L * m;
+        return (charsEnd + 3) & ~3L;
+    }
+}
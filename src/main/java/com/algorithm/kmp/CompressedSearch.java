@@ -0,0 +1,164 @@
+package com.algorithm.kmp;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+
+public class CompressedSearch {
+
+    static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    static final int DEFAULT_RING_SIZE = 4;
+
+    public static List<Long> searchGzip(Path file, String pattern) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return searchGzip(in, pattern);
+        }
+    }
+
+    // Closes the compressed stream (and releases the native Inflater) when done
+    public static List<Long> searchGzip(InputStream compressed, String pattern) throws IOException {
+        try (InputStream in = new GZIPInputStream(
+                new BufferedInputStream(compressed, DEFAULT_BUFFER_SIZE), DEFAULT_BUFFER_SIZE)) {
+            return search(in, pattern, DEFAULT_BUFFER_SIZE, DEFAULT_RING_SIZE);
+        }
+    }
+
+    public static List<Long> searchDeflate(InputStream compressed, String pattern) throws IOException {
+        try (InputStream in = new InflaterInputStream(
+                new BufferedInputStream(compressed, DEFAULT_BUFFER_SIZE))) {
+            return search(in, pattern, DEFAULT_BUFFER_SIZE, DEFAULT_RING_SIZE);
+        }
+    }
+
+    // Reads (and therefore decompresses) the source on a background thread while
+    // the calling thread runs the matcher. The two sides exchange a fixed ring of
+    // reusable buffers, so the producer can run at most ringSize buffers ahead.
+    public static List<Long> search(InputStream source, String pattern,
+            int bufferSize, int ringSize) throws IOException {
+        List<Long> matches = new ArrayList<>();
+
+        // Handle edge cases
+        if (source == null || pattern == null || pattern.isEmpty()) {
+            return matches;
+        }
+        if (bufferSize <= 0 || ringSize <= 0) {
+            throw new IllegalArgumentException("Buffer size and ring size must be positive");
+        }
+
+        BlockingQueue<Chunk> free = new ArrayBlockingQueue<>(ringSize);
+        BlockingQueue<Chunk> filled = new ArrayBlockingQueue<>(ringSize + 1);
+        for (int i = 0; i < ringSize; i++) {
+            free.add(new Chunk(bufferSize));
+        }
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread producer = new Thread(() -> fill(source, free, filled, failure), "kmp-decompress");
+        producer.setDaemon(true);
+        producer.start();
+
+        StreamingKMP matcher = new StreamingKMP(pattern);
+        try {
+            while (true) {
+                Chunk chunk = filled.take();
+                if (chunk.length < 0) {
+                    break; // End of stream (or producer failure)
+                }
+                matcher.feed(chunk.data, 0, chunk.length, matches);
+                free.put(chunk);
+            }
+            producer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while searching compressed input", e);
+        } finally {
+            // Do not leave the producer blocked on the ring if the matcher side bailed
+            // out, and wait for it to stop: the caller closes the source (and its
+            // Inflater) once we return, which must not race a read still in progress
+            if (producer.isAlive()) {
+                producer.interrupt();
+                awaitStopped(producer);
+            }
+        }
+
+        Throwable error = failure.get();
+        if (error instanceof IOException) {
+            throw (IOException) error;
+        }
+        if (error != null) {
+            throw new IOException("Failed to read input: " + error, error);
+        }
+        return matches;
+    }
+
+    // A read in progress does not see the interrupt, so this waits for it to
+    // return; an interrupt of the calling thread is kept for its caller
+    private static void awaitStopped(Thread producer) {
+        boolean interrupted = false;
+        while (producer.isAlive()) {
+            try {
+                producer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void fill(InputStream source, BlockingQueue<Chunk> free,
+            BlockingQueue<Chunk> filled, AtomicReference<Throwable> failure) {
+        try {
+            while (true) {
+                Chunk chunk = free.take();
+
+                // Fill the whole buffer so the matcher sees as few hand-offs as possible
+                int n = 0;
+                while (n < chunk.data.length) {
+                    int read = source.read(chunk.data, n, chunk.data.length - n);
+                    if (read < 0) {
+                        break;
+                    }
+                    n += read;
+                }
+
+                if (n > 0) {
+                    chunk.length = n;
+                    filled.put(chunk);
+                }
+                if (n < chunk.data.length) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            // Consumer gave up; the end marker below is harmless
+        } catch (Throwable e) {
+            failure.set(e);
+        } finally {
+            // Always signal end of stream so the consumer never blocks forever;
+            // the filled queue has one spare slot for this marker
+            filled.offer(Chunk.END);
+        }
+    }
+
+    private static final class Chunk {
+        static final Chunk END = new Chunk(0);
+
+        final byte[] data;
+        int length = -1;
+
+        Chunk(int size) {
+            this.data = new byte[size];
+        }
+    }
+}
@@ -7,20 +7,28 @@ import java.util.List;
 public class KMP {
 
     public static List<Integer> search(String text, String pattern) {
-        List<Integer> matches = new ArrayList<>();
-
         // Handle edge cases
         if (text == null || pattern == null || pattern.isEmpty() ||
                 pattern.length() > text.length()) {
+            return new ArrayList<>();
+        }
+
+        // Build the LPS array
+        return search(text, pattern, computeLPSArray(pattern));
+    }
+
+    // Search with an LPS array computed earlier, so callers that reuse a
+    // pattern do not rebuild it for every text
+    static List<Integer> search(String text, String pattern, int[] lps) {
+        List<Integer> matches = new ArrayList<>();
+
+        if (text == null || pattern.length() > text.length()) {
             return matches;
         }
 
         int n = text.length();
         int m = pattern.length();
 
-        // Build the LPS array
-        int[] lps = computeLPSArray(pattern);
-
         // Search for pattern in text
         int i = 0; // index for text
         int j = 0; // index for pattern
@@ -0,0 +1,71 @@
+package com.algorithm.kmp;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+// Lock-free latency histogram with power-of-two nanosecond buckets.
+// Percentiles are reported as the upper bound of the bucket they fall in.
+public class LatencyHistogram {
+
+    private static final int BUCKETS = 64;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long nanos) {
+        long value = Math.max(1, nanos);
+        counts.incrementAndGet(63 - Long.numberOfLeadingZeros(value));
+        total.incrementAndGet();
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    public long count() {
+        return total.get();
+    }
+
+    public long maxNanos() {
+        return max.get();
+    }
+
+    public long percentileNanos(double percentile) {
+        long n = total.get();
+        if (n == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(n * percentile / 100.0);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= rank) {
+                return Math.min(max.get(), bucket == 63 ? Long.MAX_VALUE : (1L << (bucket + 1)) - 1);
+            }
+        }
+        return max.get();
+    }
+
+    // Non-empty buckets as "upperBoundNanos:count" pairs, lowest bucket first
+    public String buckets() {
+        StringBuilder sb = new StringBuilder();
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            long count = counts.get(bucket);
+            if (count > 0) {
+                if (sb.length() > 0) {
+                    sb.append(',');
+                }
+                sb.append(bucket == 63 ? Long.MAX_VALUE : (1L << (bucket + 1)) - 1).append(':').append(count);
+            }
+        }
+        return sb.toString();
+    }
+
+    public String summary() {
+        return String.format("count=%d p50_us=%.1f p99_us=%.1f max_us=%.1f",
+                count(),
+                percentileNanos(50) / 1_000.0,
+                percentileNanos(99) / 1_000.0,
+                maxNanos() / 1_000.0);
+    }
+}
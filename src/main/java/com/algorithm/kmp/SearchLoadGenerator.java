@@ -0,0 +1,154 @@
+package com.algorithm.kmp;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+// Closed-loop load generator for SearchServer: each worker sends its next
+// request as soon as the previous one completes. Request i searches the text
+// followed by " #i", so no two requests carry the same body.
+public class SearchLoadGenerator {
+
+    public static Report run(URI base, String patternId, String pattern, String text,
+            int concurrency, int requests) throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        HttpResponse<String> registered = client.send(HttpRequest.newBuilder()
+                        .uri(base.resolve(SearchServer.PATTERNS + "/" + patternId))
+                        .PUT(HttpRequest.BodyPublishers.ofString(pattern))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (registered.statusCode() != 200) {
+            throw new IOException("Failed to register pattern: " + registered.body());
+        }
+
+        URI search = base.resolve(SearchServer.SEARCH + "/" + patternId);
+
+        long[] latencies = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int w = 0; w < concurrency; w++) {
+            futures.add(workers.submit(() -> {
+                int i;
+                while ((i = next.getAndIncrement()) < requests) {
+                    HttpRequest request = HttpRequest.newBuilder(search)
+                            .POST(HttpRequest.BodyPublishers.ofString(text + " #" + i))
+                            .build();
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        errors.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    latencies[i] = System.nanoTime() - sent;
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                workers.shutdownNow();
+                throw new IOException("Load worker failed", e.getCause());
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        workers.shutdown();
+
+        return new Report(latencies, errors.get(), elapsed);
+    }
+
+    public static final class Report {
+        private final long[] sortedLatencies;
+        private final int errors;
+        private final long elapsedNanos;
+
+        Report(long[] latencies, int errors, long elapsedNanos) {
+            this.sortedLatencies = latencies.clone();
+            Arrays.sort(this.sortedLatencies);
+            this.errors = errors;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public int requests() {
+            return sortedLatencies.length;
+        }
+
+        public int errors() {
+            return errors;
+        }
+
+        public long percentileNanos(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(sortedLatencies.length * percentile / 100.0);
+            return sortedLatencies[Math.max(0, rank - 1)];
+        }
+
+        public double throughput() {
+            return sortedLatencies.length / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("requests=%d errors=%d p50=%.3f ms p99=%.3f ms throughput=%.1f req/s",
+                    requests(), errors,
+                    percentileNanos(50) / 1_000_000.0,
+                    percentileNanos(99) / 1_000_000.0,
+                    throughput());
+        }
+    }
+
+    // Usage: SearchLoadGenerator [port] [concurrency] [requests] [textSize]
+    // Starts an in-process server unless a port is given.
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 0;
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        int requests = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+        int textSize = args.length > 3 ? Integer.parseInt(args[3]) : 4_096;
+        if (port == 0) {
+            SearchServer.warnWithoutNoDelay();
+        }
+
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < textSize) {
+            sb.append(sb.length() % 100 == 0 ? "pattern " : "abc ");
+        }
+
+        SearchServer local = port == 0 ? SearchServer.start(0, concurrency) : null;
+        try {
+            URI base = local != null ? local.uri() : URI.create("http://localhost:" + port);
+            Report report = run(base, "load", "pattern", sb.toString(), concurrency, requests);
+            System.out.println(report);
+            if (local != null) {
+                System.out.print(local.stats());
+            }
+        } finally {
+            if (local != null) {
+                local.stop();
+            }
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.algorithm.kmp;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+
+// Localhost-only HTTP front end so several processes can share one set of
+// compiled patterns.
+//
+//   PUT  /patterns/{id}   body = pattern      register (or replace) a pattern
+//   POST /search/{id}     body = text         comma-separated match positions
+//   GET  /stats                               per-endpoint latency histograms
+//
+// Requests for the same pattern share its compiled LPS table and otherwise run
+// independently, in parallel on the pool, since a single-pattern KMP scan has no
+// other per-pattern work to share between different texts.
+//
+// Run the JVM with -Dsun.net.httpserver.nodelay=true; the README commands and
+// the surefire configuration pass it. Without it, small request/response pairs
+// stall for ~40ms on Nagle + delayed ACK. The JDK reads the flag once, when the
+// first HttpServer in the process is created, and it applies to every HttpServer,
+// so this class never sets it itself.
+public class SearchServer {
+
+    static final String PATTERNS = "/patterns";
+    static final String SEARCH = "/search";
+    static final String STATS = "/stats";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    // Compiled LPS tables shared by every id that uses the same pattern. Guarded
+    // by register(); a table is dropped when the last id using it is replaced.
+    private final Map<String, Table> tables = new ConcurrentHashMap<>();
+    private final Map<String, Compiled> patterns = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+
+    // Test hook, called with each text just before it is searched
+    volatile Consumer<String> beforeSearch = text -> { };
+
+    private SearchServer(HttpServer server, ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+    }
+
+    public static SearchServer start(int port, int threads) throws IOException {
+        HttpServer http = HttpServer.create(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        SearchServer searchServer = new SearchServer(http, executor);
+
+        http.createContext(PATTERNS, exchange -> searchServer.handle(PATTERNS, exchange));
+        http.createContext(SEARCH, exchange -> searchServer.handle(SEARCH, exchange));
+        http.createContext(STATS, exchange -> searchServer.handle(STATS, exchange));
+        http.setExecutor(executor);
+        http.start();
+
+        return searchServer;
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    public URI uri() {
+        InetSocketAddress address = server.getAddress();
+        return URI.create("http://" + InetAddress.getLoopbackAddress().getHostAddress()
+                .replaceFirst("^(.*:.*)$", "[$1]") + ":" + address.getPort());
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public synchronized void register(String id, String pattern) {
+        if (pattern == null || pattern.isEmpty()) {
+            throw new IllegalArgumentException("Pattern must not be empty");
+        }
+        Compiled previous = patterns.get(id);
+        if (previous != null && previous.pattern.equals(pattern)) {
+            return;
+        }
+
+        Table table = tables.computeIfAbsent(pattern, p -> new Table(KMP.getLPSArray(p)));
+        table.ids++;
+        patterns.put(id, new Compiled(pattern, table.lps));
+
+        if (previous != null && --tables.get(previous.pattern).ids == 0) {
+            tables.remove(previous.pattern);
+        }
+    }
+
+    public List<Integer> search(String id, String text) {
+        Compiled compiled = patterns.get(id);
+        if (compiled == null) {
+            throw new IllegalArgumentException("Unknown pattern id: " + id);
+        }
+        if (text == null) {
+            return Collections.emptyList();
+        }
+
+        // Searches on the same table run concurrently; the table is read-only
+        beforeSearch.accept(text);
+        return KMP.search(text, compiled.pattern, compiled.lps);
+    }
+
+    public LatencyHistogram latency(String endpoint) {
+        return latencies.computeIfAbsent(endpoint, e -> new LatencyHistogram());
+    }
+
+    public String stats() {
+        StringBuilder sb = new StringBuilder();
+        for (String endpoint : List.of(PATTERNS, SEARCH, STATS)) {
+            LatencyHistogram histogram = latency(endpoint);
+            sb.append(endpoint).append(' ').append(histogram.summary())
+                    .append(" buckets_ns=").append(histogram.buckets()).append('\n');
+        }
+        sb.append("patterns=").append(patterns.size())
+                .append(" compiled_tables=").append(tables.size()).append('\n');
+        return sb.toString();
+    }
+
+    private void handle(String endpoint, HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        try {
+            String method = exchange.getRequestMethod();
+            String id = exchange.getRequestURI().getPath().substring(endpoint.length());
+            if (id.startsWith("/")) {
+                id = id.substring(1);
+            }
+
+            switch (endpoint) {
+                case PATTERNS:
+                    if (!method.equals("PUT") && !method.equals("POST")) {
+                        respond(exchange, 405, "Use PUT " + PATTERNS + "/{id}");
+                    } else if (id.isEmpty()) {
+                        respond(exchange, 400, "Missing pattern id");
+                    } else {
+                        String pattern = readBody(exchange);
+                        if (pattern.isEmpty()) {
+                            respond(exchange, 400, "Pattern must not be empty");
+                        } else {
+                            register(id, pattern);
+                            respond(exchange, 200, id);
+                        }
+                    }
+                    break;
+                case SEARCH:
+                    if (!method.equals("POST")) {
+                        respond(exchange, 405, "Use POST " + SEARCH + "/{id}");
+                    } else if (!patterns.containsKey(id)) {
+                        respond(exchange, 404, "Unknown pattern id: " + id);
+                    } else {
+                        List<Integer> matches = search(id, readBody(exchange));
+                        respond(exchange, 200, matches.stream()
+                                .map(String::valueOf).collect(Collectors.joining(",")));
+                    }
+                    break;
+                default:
+                    respond(exchange, 200, stats());
+                    break;
+            }
+        } finally {
+            exchange.close();
+            latency(endpoint).record(System.nanoTime() - start);
+        }
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    private static final class Compiled {
+        final String pattern;
+        final int[] lps;
+
+        Compiled(String pattern, int[] lps) {
+            this.pattern = pattern;
+            this.lps = lps;
+        }
+    }
+
+    private static final class Table {
+        final int[] lps;
+        int ids; // number of registered ids using this table
+
+        Table(int[] lps) {
+            this.lps = lps;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        warnWithoutNoDelay();
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        int threads = args.length > 1 ? Integer.parseInt(args[1])
+                : Runtime.getRuntime().availableProcessors();
+
+        SearchServer searchServer = start(port, threads);
+        Runtime.getRuntime().addShutdownHook(new Thread(searchServer::stop));
+        System.out.println("KMP search server listening on " + searchServer.uri());
+    }
+
+    static void warnWithoutNoDelay() {
+        if (!Boolean.getBoolean("sun.net.httpserver.nodelay")) {
+            System.err.println("Warning: run with -Dsun.net.httpserver.nodelay=true,"
+                    + " or small requests stall for ~40ms");
+        }
+    }
+}
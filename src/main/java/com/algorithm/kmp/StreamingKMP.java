@@ -0,0 +1,84 @@
+package com.algorithm.kmp;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+
+public class StreamingKMP {
+
+    private final byte[] pattern;
+    private final int[] lps;
+
+    private int j;          // number of pattern bytes currently matched
+    private long position;  // number of bytes consumed so far
+
+    public StreamingKMP(String pattern) {
+        this(pattern.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public StreamingKMP(byte[] pattern) {
+        if (pattern.length == 0) {
+            throw new IllegalArgumentException("Pattern must not be empty");
+        }
+        this.pattern = pattern.clone();
+        this.lps = computeLPSArray(this.pattern);
+    }
+
+    // Feeds the next chunk of the stream; matches are reported as offsets
+    // of the first byte of the match from the start of the whole stream
+    public void feed(byte[] buffer, int offset, int length, List<Long> matches) {
+        int m = pattern.length;
+        int end = offset + length;
+
+        for (int i = offset; i < end; i++) {
+            byte b = buffer[i];
+
+            // Mismatch after j matches: fall back using the LPS array
+            while (j > 0 && b != pattern[j]) {
+                j = lps[j - 1];
+            }
+            if (b == pattern[j]) {
+                j++;
+            }
+
+            if (j == m) {
+                matches.add(position + (i - offset) - m + 1);
+                j = lps[j - 1]; // Continue searching for next match
+            }
+        }
+
+        position += length;
+    }
+
+    public long position() {
+        return position;
+    }
+
+    public void reset() {
+        j = 0;
+        position = 0;
+    }
+
+    private static int[] computeLPSArray(byte[] pattern) {
+        int m = pattern.length;
+        int[] lps = new int[m];
+
+        int len = 0;
+        int i = 1;
+
+        while (i < m) {
+            if (pattern[i] == pattern[len]) {
+                len++;
+                lps[i] = len;
+                i++;
+            } else if (len != 0) {
+                len = lps[len - 1];
+            } else {
+                lps[i] = 0;
+                i++;
+            }
+        }
+
+        return lps;
+    }
+}
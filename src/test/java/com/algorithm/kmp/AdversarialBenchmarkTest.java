@@ -0,0 +1,418 @@
+package com.algorithm.kmp;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs every engine on the adversarial workload families and fails when a
+ * metric regresses past the stored baseline. Excluded from the default build;
+ * run with {@code mvn test -Pbenchmark}.
+ *
+ * Allocation is gated against the committed baseline, which does not depend on
+ * the machine. Timings (ns/char and p99) are reported on every run but only
+ * gated against a baseline recorded on a named machine, selected with
+ * benchmark.machine; that baseline sits next to the allocation one as
+ * benchmark-baseline-{machine}.properties. The committed allocation baseline
+ * covers 1M and 16M; larger sizes fail with "no baseline" until recorded.
+ *
+ * System properties:
+ * benchmark.sizes (default 1M,16M, up to 1G), benchmark.patternLength (256),
+ * benchmark.timeTolerance (0.5), benchmark.latencyTolerance (0.5), benchmark.allocTolerance (0.1),
+ * benchmark.pipelineTolerance (0.5) over the slower of inflate-only and streaming for gzip
+ * (their sum on a single core),
+ * benchmark.baseline (src/test/resources/benchmark-baseline.properties),
+ * benchmark.machine (unset) to gate timings too,
+ * benchmark.runs (3) runs, keeping the fastest for timings and the largest allocation,
+ * benchmark.updateBaseline (false) to record the measured keys instead of gating them.
+ */
+@Tag("benchmark")
+@DisplayName("Adversarial Workload Benchmark")
+class AdversarialBenchmarkTest {
+
+    private static final String[] METRICS = { "psPerChar", "allocBytes", "p99Nanos" };
+    private static final String INFLATE = "inflate";
+
+    // p99 latency is taken over rounds of LATENCY_SAMPLES searches of
+    // LATENCY_WINDOW chars each, cycling through LATENCY_SLICES windows spread
+    // across the text. The median of LATENCY_ROUNDS rounds is reported, so one
+    // burst of scheduler noise does not move the tail.
+    private static final int LATENCY_WINDOW = 64 * 1024;
+    private static final int LATENCY_SLICES = 16;
+    private static final int LATENCY_SAMPLES = 1000;
+    private static final int LATENCY_ROUNDS = 3;
+
+    @TempDir
+    Path dir;
+
+    private interface Engine {
+        long run(Workload workload) throws IOException;
+    }
+
+    private static final class Workload {
+        final String label;
+        final byte[] bytes;
+        final String text;
+        final byte[] gzipped;
+        final String pattern;
+        final CompiledPatterns compiled;
+
+        Workload(String label, byte[] bytes, String pattern, CompiledPatterns compiled) {
+            this.label = label;
+            this.bytes = bytes;
+            this.text = new String(bytes, StandardCharsets.ISO_8859_1);
+            this.gzipped = gzip(bytes);
+            this.pattern = pattern;
+            this.compiled = compiled;
+        }
+    }
+
+    @Test
+    @DisplayName("Should not regress past the stored baseline on adversarial inputs")
+    void testAdversarialRegressions() throws IOException {
+        int m = Integer.getInteger("benchmark.patternLength", 256);
+        double timeTolerance = Double.parseDouble(System.getProperty("benchmark.timeTolerance", "0.5"));
+        double latencyTolerance = Double.parseDouble(System.getProperty("benchmark.latencyTolerance", "0.5"));
+        double allocTolerance = Double.parseDouble(System.getProperty("benchmark.allocTolerance", "0.1"));
+        double pipelineTolerance = Double.parseDouble(System.getProperty("benchmark.pipelineTolerance", "0.5"));
+        Path baselineFile = Paths.get(System.getProperty("benchmark.baseline",
+                "src/test/resources/benchmark-baseline.properties"));
+        // Timings only mean something on the machine they were recorded on
+        String machine = System.getProperty("benchmark.machine");
+        Path timingFile = machine == null ? null
+                : baselineFile.resolveSibling("benchmark-baseline-" + machine + ".properties");
+
+        Map<String, Engine> engines = new TreeMap<>();
+        engines.put("kmp", w -> KMP.search(w.text, w.pattern).size());
+        engines.put("streaming", w -> {
+            List<Long> matches = new ArrayList<>();
+            new StreamingKMP(w.pattern).feed(w.bytes, 0, w.bytes.length, matches);
+            return matches.size();
+        });
+        engines.put("pipeline", w -> CompressedSearch.search(new ByteArrayInputStream(w.bytes), w.pattern,
+                CompressedSearch.DEFAULT_BUFFER_SIZE, CompressedSearch.DEFAULT_RING_SIZE).size());
+        engines.put("gzip", w -> CompressedSearch.searchGzip(
+                new ByteArrayInputStream(w.gzipped), w.pattern).size());
+        engines.put("mapped", w -> w.compiled.search(w.text, 0).size());
+        // Reference only, not gated: decompresses to the end with the same buffers as
+        // searchGzip but does no matching, the limit the gzip pipeline should approach
+        engines.put(INFLATE, w -> {
+            try (InputStream in = new GZIPInputStream(new BufferedInputStream(
+                    new ByteArrayInputStream(w.gzipped), CompressedSearch.DEFAULT_BUFFER_SIZE),
+                    CompressedSearch.DEFAULT_BUFFER_SIZE)) {
+                byte[] buffer = new byte[CompressedSearch.DEFAULT_BUFFER_SIZE];
+                while (in.read(buffer) >= 0) {
+                    // Discard
+                }
+            }
+            return -1;
+        });
+
+        boolean record = Boolean.getBoolean("benchmark.updateBaseline");
+        int runs = Integer.getInteger("benchmark.runs", 3);
+        Map<String, List<Long>> samples = new TreeMap<>();
+        StringBuilder csv = new StringBuilder("engine,family,size,nsPerChar,allocBytes,p99Nanos,matches\n");
+        warmUp(engines, m);
+        for (int run = 0; run < runs; run++) {
+            runSuite(engines, m, samples, csv);
+        }
+        // Scheduling noise only ever makes a run slower, so baseline and gate keep the
+        // fastest run's timings and a slowdown has to show up in every run. Allocation
+        // does not depend on the scheduler, so it keeps the worst run.
+        Map<String, Long> results = new TreeMap<>();
+        samples.forEach((key, values) -> results.put(key,
+                key.endsWith(".allocBytes") ? Collections.max(values) : Collections.min(values)));
+        Map<String, Long> references = new TreeMap<>();
+        for (String key : new ArrayList<>(results.keySet())) {
+            if (key.startsWith(INFLATE + ".")) {
+                references.put(key, results.remove(key));
+            }
+        }
+
+        Files.createDirectories(Paths.get("target"));
+        Files.writeString(Paths.get("target", "benchmark-results.csv"), csv.toString());
+
+        Map<String, Long> allocBaseline = readBaseline(baselineFile);
+        Map<String, Long> timingBaseline = timingFile == null ? null : readBaseline(timingFile);
+
+        if (record) {
+            // Keep stored entries for sizes that were not measured this time
+            for (Map.Entry<String, Long> result : results.entrySet()) {
+                if (result.getKey().endsWith(".allocBytes")) {
+                    allocBaseline.put(result.getKey(), result.getValue());
+                } else if (timingBaseline != null) {
+                    timingBaseline.put(result.getKey(), result.getValue());
+                }
+            }
+            writeBaseline(baselineFile, allocBaseline, "allocation baseline, the worst of "
+                    + runs + " runs", "");
+            if (timingFile != null) {
+                writeBaseline(timingFile, timingBaseline, "timing baseline for machine '" + machine
+                        + "', the best of " + runs + " runs", " -Dbenchmark.machine=" + machine);
+            } else {
+                System.out.println("Timings not recorded, name the machine with -Dbenchmark.machine");
+            }
+            return;
+        }
+
+        List<String> regressions = new ArrayList<>();
+
+        // Decompression and matching run on separate threads, so with a core for
+        // each the gzip pipeline should be about as fast as the slower of the two
+        // on its own. On a single core they can only take turns.
+        boolean overlapped = Runtime.getRuntime().availableProcessors() > 1;
+        for (Map.Entry<String, Long> result : results.entrySet()) {
+            String key = result.getKey();
+            if (!key.startsWith("gzip.") || !key.endsWith(".psPerChar")) {
+                continue;
+            }
+            String workload = key.substring("gzip.".length());
+            long inflate = references.get(INFLATE + "." + workload);
+            long streaming = results.get("streaming." + workload);
+            long stages = overlapped ? Math.max(inflate, streaming) : inflate + streaming;
+            long limit = (long) (stages * (1 + pipelineTolerance));
+            if (result.getValue() > limit) {
+                regressions.add(key + ": " + result.getValue() + " > " + limit + " ("
+                        + (overlapped ? "slower" : "sum") + " of inflate and streaming " + stages + ")");
+            }
+        }
+
+        for (Map.Entry<String, Long> result : results.entrySet()) {
+            boolean alloc = result.getKey().endsWith(".allocBytes");
+            Map<String, Long> baseline = alloc ? allocBaseline : timingBaseline;
+            if (baseline == null) {
+                continue; // Timings are only reported unless a machine is named
+            }
+            Long expected = baseline.get(result.getKey());
+            if (expected == null) {
+                regressions.add(result.getKey() + ": no baseline, record one with -Dbenchmark.updateBaseline=true"
+                        + (alloc ? "" : " -Dbenchmark.machine=" + machine));
+                continue;
+            }
+            double tolerance = result.getKey().endsWith(".allocBytes") ? allocTolerance
+                    : result.getKey().endsWith(".p99Nanos") ? latencyTolerance : timeTolerance;
+            long limit = (long) (expected * (1 + tolerance));
+            // Allow a little absolute slack so near-zero allocations do not flap
+            if (alloc) {
+                limit += 1024;
+            }
+            if (result.getValue() > limit) {
+                regressions.add(result.getKey() + ": " + result.getValue() + " > " + limit
+                        + " (baseline " + expected + ")");
+            }
+        }
+
+        assertTrue(regressions.isEmpty(), "Benchmark regressions:\n" + String.join("\n", regressions));
+    }
+
+    private void runSuite(Map<String, Engine> engines, int m, Map<String, List<Long>> samples,
+            StringBuilder csv) throws IOException {
+        for (String size : System.getProperty("benchmark.sizes", "1M,16M").split(",")) {
+            int n = parseSize(size.trim());
+            for (AdversarialWorkloads.Family family : AdversarialWorkloads.Family.values()) {
+                Workload workload = workload(family, size.trim(), n, m);
+                List<Workload> windows = windows(workload);
+
+                long expectedMatches = -1;
+                for (Map.Entry<String, Engine> engine : engines.entrySet()) {
+                    long[] metrics = measure(engine.getValue(), workload, windows, n);
+                    String key = engine.getKey() + "." + workload.label;
+                    for (int i = 0; i < METRICS.length; i++) {
+                        samples.computeIfAbsent(key + "." + METRICS[i], k -> new ArrayList<>()).add(metrics[i]);
+                    }
+
+                    // Every engine has to agree before its numbers mean anything
+                    if (!engine.getKey().equals(INFLATE)) {
+                        if (expectedMatches < 0) {
+                            expectedMatches = metrics[3];
+                        }
+                        assertEquals(expectedMatches, metrics[3], key + " should find the same matches");
+                    }
+
+                    csv.append(String.format("%s,%s,%s,%.3f,%d,%d,%d%n", engine.getKey(), family, size.trim(),
+                            metrics[0] / 1000.0, metrics[1], metrics[2], metrics[3]));
+                    System.out.printf("%-10s %-15s %5s  %8.3f ns/char  %,14d B/search  p99 %,12d ns%n",
+                            engine.getKey(), family, size.trim(), metrics[0] / 1000.0, metrics[1], metrics[2]);
+                }
+            }
+        }
+    }
+
+    // Runs every engine on every family before anything is measured. Otherwise
+    // the JIT compiles each engine for whichever family it saw first, and the
+    // numbers for later families depend on the order and on the compile.
+    private void warmUp(Map<String, Engine> engines, int m) throws IOException {
+        for (AdversarialWorkloads.Family family : AdversarialWorkloads.Family.values()) {
+            Workload workload = workload(family, "warmup", 1 << 20, m);
+            List<Workload> windows = windows(workload);
+            for (Engine engine : engines.values()) {
+                long end = System.nanoTime() + 300_000_000L;
+                for (int i = 0; i < 5 || System.nanoTime() < end; i++) {
+                    engine.run(workload);
+                    for (Workload window : windows) {
+                        engine.run(window);
+                    }
+                }
+            }
+        }
+    }
+
+    private Workload workload(AdversarialWorkloads.Family family, String size, int n, int m) throws IOException {
+        String pattern = AdversarialWorkloads.pattern(family, m);
+        Path file = dir.resolve(family + ".kmpc");
+        if (!Files.exists(file)) {
+            CompiledPatterns.write(file, List.of(pattern));
+        }
+        return new Workload(family + "." + size, AdversarialWorkloads.text(family, n, m), pattern,
+                CompiledPatterns.open(file));
+    }
+
+    private static List<Workload> windows(Workload workload) {
+        List<Workload> windows = new ArrayList<>();
+        int n = workload.bytes.length;
+        int window = Math.min(n, LATENCY_WINDOW);
+        for (int i = 0; i < LATENCY_SLICES; i++) {
+            int from = (int) ((long) (n - window) * i / LATENCY_SLICES);
+            windows.add(new Workload(workload.label, Arrays.copyOfRange(workload.bytes, from, from + window),
+                    workload.pattern, workload.compiled));
+        }
+        return windows;
+    }
+
+    // Returns {picoseconds per char (median), allocated bytes (median),
+    // p99 latency ns over the windows, matches}
+    private static long[] measure(Engine engine, Workload workload, List<Workload> windows, int n)
+            throws IOException {
+        int reps = (int) Math.max(5, Math.min(50, (256L << 20) / n));
+        long matches = 0;
+
+        // Do not bill the previous workload's garbage to this engine
+        System.gc();
+
+        // Warm up until the JIT has settled: at least 5 runs and 500ms
+        long warmupEnd = System.nanoTime() + 500_000_000L;
+        for (int i = 0; i < 5 || System.nanoTime() < warmupEnd; i++) {
+            matches = engine.run(workload);
+        }
+
+        long[] times = new long[reps];
+        long[] allocations = new long[reps];
+        for (int i = 0; i < reps; i++) {
+            long allocatedBefore = allocatedBytes();
+            long start = System.nanoTime();
+            engine.run(workload);
+            times[i] = System.nanoTime() - start;
+            allocations[i] = allocatedBytes() - allocatedBefore;
+        }
+
+        // A whole-text search only gets a few dozen samples, too few for a tail
+        // percentile, so latency is measured on many short searches instead
+        System.gc();
+        warmupEnd = System.nanoTime() + 500_000_000L;
+        for (int i = 0; i < LATENCY_SAMPLES / 10 || System.nanoTime() < warmupEnd; i++) {
+            engine.run(windows.get(i % windows.size()));
+        }
+        long[] p99s = new long[LATENCY_ROUNDS];
+        long[] latencies = new long[LATENCY_SAMPLES];
+        for (int round = 0; round < LATENCY_ROUNDS; round++) {
+            System.gc();
+            for (int i = 0; i < LATENCY_SAMPLES; i++) {
+                Workload window = windows.get(i % windows.size());
+                long start = System.nanoTime();
+                engine.run(window);
+                latencies[i] = System.nanoTime() - start;
+            }
+            Arrays.sort(latencies);
+            p99s[round] = latencies[(int) Math.ceil(LATENCY_SAMPLES * 0.99) - 1];
+        }
+
+        Arrays.sort(times);
+        Arrays.sort(allocations);
+        Arrays.sort(p99s);
+        long median = times[reps / 2];
+        long p99 = p99s[LATENCY_ROUNDS / 2];
+
+        return new long[] { median * 1000 / n, allocations[reps / 2], p99, matches };
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // Only counts the calling thread, so the pipeline's producer thread is excluded
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static int parseSize(String size) {
+        char unit = Character.toUpperCase(size.charAt(size.length() - 1));
+        long multiplier = unit == 'K' ? 1L << 10 : unit == 'M' ? 1L << 20 : unit == 'G' ? 1L << 30 : 1;
+        String digits = multiplier == 1 ? size : size.substring(0, size.length() - 1);
+        long value = Long.parseLong(digits) * multiplier;
+        if (value > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Benchmark size too large: " + size);
+        }
+        return (int) value;
+    }
+
+    private static Map<String, Long> readBaseline(Path file) throws IOException {
+        Map<String, Long> baseline = new TreeMap<>();
+        if (Files.exists(file)) {
+            Properties stored = new Properties();
+            try (InputStream in = Files.newInputStream(file)) {
+                stored.load(in);
+            }
+            for (String key : stored.stringPropertyNames()) {
+                baseline.put(key, Long.parseLong(stored.getProperty(key).trim()));
+            }
+        }
+        return baseline;
+    }
+
+    private static void writeBaseline(Path file, Map<String, Long> baseline, String title, String flags)
+            throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (Writer out = Files.newBufferedWriter(file)) {
+            out.write("# Adversarial benchmark: " + title + ". Regenerate with:\n");
+            out.write("#   mvn test -Pbenchmark -Dbenchmark.updateBaseline=true" + flags + "\n");
+            out.write("# psPerChar is picoseconds per char and allocBytes is per search of the whole text;\n");
+            out.write("# p99Nanos is per search of a " + LATENCY_WINDOW / 1024 + "K window\n");
+            for (Map.Entry<String, Long> entry : baseline.entrySet()) {
+                out.write(entry.getKey() + "=" + entry.getValue() + "\n");
+            }
+        }
+        System.out.println("Wrote benchmark baseline to " + file);
+    }
+}
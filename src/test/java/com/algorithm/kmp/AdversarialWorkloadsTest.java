@@ -0,0 +1,79 @@
+package com.algorithm.kmp;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Adversarial Workload Test Suite")
+class AdversarialWorkloadsTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Should generate the Fibonacci word")
+    void testFibonacciWord() {
+        assertEquals("abaababaabaababaababa",
+                new String(AdversarialWorkloads.fibonacciWord(21), StandardCharsets.ISO_8859_1));
+        assertEquals(0, AdversarialWorkloads.fibonacciWord(0).length);
+        assertEquals("a", new String(AdversarialWorkloads.fibonacciWord(1), StandardCharsets.ISO_8859_1));
+    }
+
+    @Test
+    @DisplayName("Should build a^(m-1) b patterns and chain-collapse texts")
+    void testUnaryFamilies() {
+        assertEquals("aaab", AdversarialWorkloads.pattern(AdversarialWorkloads.Family.UNARY_MISS, 4));
+        assertEquals("aaacaaacaa", new String(AdversarialWorkloads.text(
+                AdversarialWorkloads.Family.CHAIN_COLLAPSE, 10, 4), StandardCharsets.ISO_8859_1));
+        assertThrows(IllegalArgumentException.class,
+                () -> AdversarialWorkloads.pattern(AdversarialWorkloads.Family.FIBONACCI, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> AdversarialWorkloads.text(AdversarialWorkloads.Family.CHAIN_COLLAPSE, 10, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> AdversarialWorkloads.text(AdversarialWorkloads.Family.CHAIN_COLLAPSE, 10, -3));
+    }
+
+    @ParameterizedTest(name = "Family: {0}")
+    @DisplayName("Should give identical results on every engine")
+    @EnumSource(AdversarialWorkloads.Family.class)
+    void testEnginesAgree(AdversarialWorkloads.Family family) throws IOException {
+        int m = 55;
+        byte[] bytes = AdversarialWorkloads.text(family, 100_000, m);
+        String text = new String(bytes, StandardCharsets.ISO_8859_1);
+        String pattern = AdversarialWorkloads.pattern(family, m);
+
+        List<Long> expected = KMP.search(text, pattern).stream()
+                .map(Integer::longValue).collect(Collectors.toList());
+
+        List<Long> streamed = new ArrayList<>();
+        new StreamingKMP(pattern.getBytes(StandardCharsets.ISO_8859_1))
+                .feed(bytes, 0, bytes.length, streamed);
+        assertIterableEquals(expected, streamed, "StreamingKMP should agree with KMP.search");
+
+        assertIterableEquals(expected, CompressedSearch.search(
+                new ByteArrayInputStream(bytes), pattern, 4096, 2), "CompressedSearch should agree");
+
+        Path file = dir.resolve(family + ".kmpc");
+        CompiledPatterns.write(file, List.of(pattern));
+        assertIterableEquals(KMP.search(text, pattern), CompiledPatterns.open(file).search(text, 0),
+                "CompiledPatterns should agree with KMP.search");
+
+        if (family == AdversarialWorkloads.Family.FIBONACCI) {
+            assertFalse(expected.isEmpty(), "Fibonacci word should contain its own prefix");
+        } else {
+            assertTrue(expected.isEmpty(), "Unary families should never match");
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.algorithm.kmp;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Baker-Bird 2D Matching Test Suite")
+class BakerBirdTest {
+
+    @Test
+    @DisplayName("Should find a tile in a small grid")
+    void testSimpleMatch() {
+        String[] text = {
+                "abcde",
+                "fghij",
+                "klmno",
+                "pqrst"
+        };
+        String[] pattern = {
+                "gh",
+                "lm"
+        };
+
+        List<int[]> matches = BakerBird.search(text, pattern);
+
+        assertEquals(1, matches.size(), "Should find exactly one match");
+        assertArrayEquals(new int[] { 1, 1 }, matches.get(0), "Should report the top-left corner");
+    }
+
+    @Test
+    @DisplayName("Should find overlapping matches with repeated pattern rows")
+    void testOverlappingMatches() {
+        String[] text = {
+                "aaaa",
+                "aaaa",
+                "aaaa"
+        };
+        String[] pattern = {
+                "aa",
+                "aa"
+        };
+
+        List<int[]> matches = BakerBird.search(text, pattern);
+
+        assertEquals(6, matches.size(), "Should find every 2x2 position");
+        assertArrayEquals(new int[] { 0, 0 }, matches.get(0));
+        assertArrayEquals(new int[] { 1, 2 }, matches.get(5));
+    }
+
+    @Test
+    @DisplayName("Should require the whole row sequence, not just individual rows")
+    void testRowOrderMatters() {
+        String[] text = {
+                "xy",
+                "yx",
+                "xy"
+        };
+
+        assertTrue(BakerBird.search(text, new String[] { "xy", "xy" }).isEmpty(),
+                "Should not match rows that are not stacked in order");
+        assertEquals(2, BakerBird.search(text, new String[] { "y", "x" }).size());
+    }
+
+    @Test
+    @DisplayName("Should handle edge cases")
+    void testEdgeCases() {
+        assertTrue(BakerBird.search((String[]) null, new String[] { "a" }).isEmpty());
+        assertTrue(BakerBird.search(new String[] { "a" }, null).isEmpty());
+        assertTrue(BakerBird.search(new String[0], new String[] { "a" }).isEmpty());
+        assertTrue(BakerBird.search(new String[] { "abc" }, new String[] { "a", "a" }).isEmpty(),
+                "Should return empty list when pattern is taller than text");
+        assertThrows(IllegalArgumentException.class,
+                () -> BakerBird.search(new String[] { "ab", "a" }, new String[] { "a" }));
+        assertThrows(IllegalArgumentException.class,
+                () -> BakerBird.search(new String[] { "ab" }, new String[] { "ab", "a" }));
+        assertThrows(IllegalArgumentException.class,
+                () -> BakerBird.searchParallel(new char[][] { { 'a' } }, new char[][] { { 'a' } }, 0));
+    }
+
+    @Test
+    @DisplayName("Should agree with brute force on random grids")
+    void testAgainstBruteForce() {
+        Random random = new Random(42);
+        for (int trial = 0; trial < 200; trial++) {
+            int height = 1 + random.nextInt(20);
+            int width = 1 + random.nextInt(20);
+            char[][] text = randomGrid(random, height, width, 2);
+            char[][] pattern = randomGrid(random, 1 + random.nextInt(3), 1 + random.nextInt(3), 2);
+
+            List<int[]> expected = bruteForce(text, pattern);
+
+            assertMatches(expected, BakerBird.search(text, pattern));
+            assertMatches(expected, BakerBird.searchParallel(text, pattern, 1 + random.nextInt(6)));
+        }
+    }
+
+    @Test
+    @DisplayName("Should agree with brute force when following failure links on the sparse trie")
+    void testSparseAutomaton() {
+        Random random = new Random(7);
+        for (int trial = 0; trial < 200; trial++) {
+            char[][] text = randomGrid(random, 1 + random.nextInt(20), 1 + random.nextInt(20), 2);
+            char[][] pattern = randomGrid(random, 1 + random.nextInt(3), 1 + random.nextInt(4), 2);
+
+            assertMatches(bruteForce(text, pattern), BakerBird.search(text, pattern, 0));
+        }
+    }
+
+    @Test
+    @DisplayName("Should handle tiles with a 16-bit alphabet")
+    void testLargeAlphabet() {
+        // 256 x 256 tile where every pixel value is distinct: 65537 states over
+        // an alphabet of 65536 is far too big for a full transition table
+        char[][] pattern = new char[256][256];
+        for (int r = 0; r < 256; r++) {
+            for (int c = 0; c < 256; c++) {
+                pattern[r][c] = (char) (r * 256 + c);
+            }
+        }
+        Random random = new Random(256);
+        char[][] text = new char[400][400];
+        for (char[] row : text) {
+            for (int c = 0; c < row.length; c++) {
+                row[c] = (char) random.nextInt(1 << 16);
+            }
+        }
+        for (int r = 0; r < 256; r++) {
+            System.arraycopy(pattern[r], 0, text[r + 100], 30, 256);
+        }
+        // Partial copy one column short, to exercise misses deep in the trie
+        for (int r = 0; r < 100; r++) {
+            System.arraycopy(pattern[r], 0, text[r], 140, 255);
+        }
+
+        List<int[]> matches = BakerBird.search(text, pattern);
+
+        assertEquals(1, matches.size(), "Should find the single tile");
+        assertArrayEquals(new int[] { 100, 30 }, matches.get(0));
+        assertMatches(matches, BakerBird.searchParallel(text, pattern, 4));
+    }
+
+    @ParameterizedTest(name = "Bands: {0}")
+    @DisplayName("Should give the same result for any number of column bands")
+    @ValueSource(ints = { 1, 2, 3, 7, 64, 1000 })
+    void testParallelBands(int bands) {
+        Random random = new Random(bands);
+        char[][] text = randomGrid(random, 300, 300, 2);
+        char[][] pattern = { { 'a', 'b' }, { 'b', 'a' }, { 'a', 'b' } };
+
+        assertMatches(BakerBird.search(text, pattern), BakerBird.searchParallel(text, pattern, bands));
+    }
+
+    @Test
+    @DisplayName("Should scale linearly on large grids")
+    void testLargeGrid() {
+        char[][] text = new char[1000][1000];
+        for (char[] row : text) {
+            Arrays.fill(row, 'a');
+        }
+        text[900][900] = 'b';
+        char[][] pattern = new char[50][50];
+        for (char[] row : pattern) {
+            Arrays.fill(row, 'a');
+        }
+        pattern[49][49] = 'b';
+
+        long startTime = System.nanoTime();
+        List<int[]> matches = BakerBird.search(text, pattern);
+        double timeMs = (System.nanoTime() - startTime) / 1_000_000.0;
+
+        assertEquals(1, matches.size(), "Should find the single tile");
+        assertArrayEquals(new int[] { 851, 851 }, matches.get(0));
+        assertTrue(timeMs < 1000, "Should not degrade to row-by-row verification");
+    }
+
+    private static void assertMatches(List<int[]> expected, List<int[]> actual) {
+        assertEquals(expected.size(), actual.size(), "Should find the same number of matches");
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(expected.get(i), actual.get(i), "Match " + i + " should be the same");
+        }
+    }
+
+    private static char[][] randomGrid(Random random, int height, int width, int alphabet) {
+        char[][] grid = new char[height][width];
+        for (char[] row : grid) {
+            for (int c = 0; c < width; c++) {
+                row[c] = (char) ('a' + random.nextInt(alphabet));
+            }
+        }
+        return grid;
+    }
+
+    private static List<int[]> bruteForce(char[][] text, char[][] pattern) {
+        List<int[]> matches = new ArrayList<>();
+        for (int r = 0; r + pattern.length <= text.length; r++) {
+            for (int c = 0; c + pattern[0].length <= text[0].length; c++) {
+                boolean match = true;
+                for (int i = 0; i < pattern.length && match; i++) {
+                    for (int j = 0; j < pattern[0].length && match; j++) {
+                        match = text[r + i][c + j] == pattern[i][j];
+                    }
+                }
+                if (match) {
+                    matches.add(new int[] { r, c });
+                }
+            }
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,196 @@
+package com.algorithm.kmp;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@DisplayName("Compiled Pattern File Test Suite")
+class CompiledPatternsTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Should round-trip patterns through the mapped file")
+    void testRoundTrip() throws IOException {
+        List<String> patterns = List.of("ABABCABAB", "AAAA", "x", "algorithm");
+        Path file = dir.resolve("patterns.kmpc");
+
+        CompiledPatterns.write(file, patterns);
+        CompiledPatterns compiled = CompiledPatterns.open(file);
+
+        assertEquals(patterns.size(), compiled.size(), "Should contain every pattern");
+        for (int id = 0; id < patterns.size(); id++) {
+            assertEquals(patterns.get(id), compiled.pattern(id), "Should restore pattern " + id);
+            assertEquals(patterns.get(id).length(), compiled.patternLength(id));
+        }
+    }
+
+    @Test
+    @DisplayName("Should search straight off the mapped tables like KMP.search")
+    void testSearchMatchesKMP() throws IOException {
+        List<String> patterns = List.of("ABABCABAB", "AA", "ABA", "AABAACAABA", "missing");
+        String text = "ABABDABACDABABCABAB AAAA ABABCABABA AABAACAABAABAACAABA";
+        Path file = dir.resolve("patterns.kmpc");
+
+        CompiledPatterns.write(file, patterns);
+        CompiledPatterns compiled = CompiledPatterns.open(file);
+
+        for (int id = 0; id < patterns.size(); id++) {
+            assertIterableEquals(KMP.search(text, patterns.get(id)), compiled.search(text, id),
+                    "Should find the same matches for pattern " + patterns.get(id));
+        }
+        assertTrue(compiled.search(null, 0).isEmpty(), "Should return empty list for null text");
+        assertTrue(compiled.search("AB", 0).isEmpty(), "Should return empty list for short text");
+    }
+
+    @Test
+    @DisplayName("Should replace the file without disturbing existing mappings")
+    void testRewriteWhileMapped() throws IOException {
+        Path file = dir.resolve("patterns.kmpc");
+        CompiledPatterns.write(file, List.of("needle-number-one", "second"));
+        CompiledPatterns before = CompiledPatterns.open(file);
+
+        CompiledPatterns.write(file, List.of("x"));
+        CompiledPatterns after = CompiledPatterns.open(file);
+
+        assertEquals("needle-number-one", before.pattern(0), "Old mapping should still read the old file");
+        assertIterableEquals(List.of(4), before.search("hay needle-number-one", 0));
+        assertEquals(1, after.size(), "New mapping should see the new file");
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(1, files.count(), "Should not leave temporary files behind");
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject truncated or corrupt entries when they are first used")
+    void testCorruptEntries() throws IOException {
+        Path file = dir.resolve("patterns.kmpc");
+        CompiledPatterns.write(file, List.of("ABABCABAB", "needle"));
+        byte[] valid = Files.readAllBytes(file);
+
+        Path truncated = dir.resolve("truncated.kmpc");
+        Files.write(truncated, Arrays.copyOf(valid, valid.length - 8));
+        assertCorrupt(truncated, 1);
+        assertIterableEquals(List.of(0), CompiledPatterns.open(truncated).search("ABABCABAB", 0),
+                "Intact entries should stay searchable");
+
+        byte[] badOffset = valid.clone();
+        ByteBuffer.wrap(badOffset).putInt(16, valid.length + 64);
+        Path offsetFile = dir.resolve("offset.kmpc");
+        Files.write(offsetFile, badOffset);
+        assertCorrupt(offsetFile, 1);
+
+        byte[] negativeLength = valid.clone();
+        ByteBuffer bytes = ByteBuffer.wrap(negativeLength);
+        bytes.putInt(bytes.getInt(12), -5);
+        Path lengthFile = dir.resolve("length.kmpc");
+        Files.write(lengthFile, negativeLength);
+        assertCorrupt(lengthFile, 0);
+
+        Path table = dir.resolve("table.kmpc");
+        Files.write(table, Arrays.copyOf(valid, 14));
+        IOException e = assertThrows(IOException.class, () -> CompiledPatterns.open(table));
+        assertTrue(e.getMessage().startsWith("Corrupt compiled pattern file"), e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should reject an LPS table that would stop the search making progress")
+    void testCorruptLPS() throws IOException {
+        Path file = dir.resolve("patterns.kmpc");
+        CompiledPatterns.write(file, List.of("aab"));
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int lps = (buffer.getInt(12) + 4 + 2 * 3 + 3) & ~3;
+        buffer.putInt(lps + 4, 2); // lps[1] = 2 > 1
+        Files.write(file, bytes);
+
+        CompiledPatterns compiled = CompiledPatterns.open(file);
+        assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+            UncheckedIOException e = assertThrows(UncheckedIOException.class,
+                    () -> compiled.search("aaaaaa", 0));
+            assertTrue(e.getMessage().contains("invalid LPS value"), e.getMessage());
+        });
+    }
+
+    @Test
+    @DisplayName("Should write files other users can map, keeping existing permissions")
+    void testPermissions() throws IOException {
+        Path file = dir.resolve("patterns.kmpc");
+        assumeTrue(Files.getFileStore(dir).supportsFileAttributeView(PosixFileAttributeView.class),
+                "Needs a POSIX file system");
+
+        CompiledPatterns.write(file, List.of("abc"));
+        assertTrue(Files.getPosixFilePermissions(file).containsAll(PosixFilePermissions.fromString("rw-r--r--")),
+                "New files should be readable by group and others");
+
+        Set<PosixFilePermission> restricted = PosixFilePermissions.fromString("rw-r-----");
+        Files.setPosixFilePermissions(file, restricted);
+        CompiledPatterns.write(file, List.of("abc", "def"));
+        assertEquals(restricted, Files.getPosixFilePermissions(file), "Rewrites should keep the permissions");
+    }
+
+    @Test
+    @DisplayName("Should handle large dictionaries")
+    void testLargeDictionary() throws IOException {
+        List<String> patterns = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            patterns.add("keyword-" + i + "-" + "ab".repeat(i % 13));
+        }
+        Path file = dir.resolve("large.kmpc");
+
+        CompiledPatterns.write(file, patterns);
+        CompiledPatterns compiled = CompiledPatterns.open(file);
+
+        String text = "prefix " + patterns.get(4242) + " suffix";
+        assertIterableEquals(List.of(7), compiled.search(text, 4242), "Should find keyword 4242");
+        assertTrue(compiled.search(text, 4243).isEmpty(), "Should not find other keyword");
+    }
+
+    @Test
+    @DisplayName("Should reject invalid ids, files and patterns")
+    void testInvalidInput() throws IOException {
+        Path file = dir.resolve("patterns.kmpc");
+        CompiledPatterns.write(file, List.of("abc"));
+        CompiledPatterns compiled = CompiledPatterns.open(file);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> compiled.search("abc", 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> CompiledPatterns.write(dir.resolve("bad.kmpc"), List.of("ok", "")));
+
+        Path garbage = dir.resolve("garbage.kmpc");
+        Files.write(garbage, "not a pattern file".getBytes());
+        assertThrows(IOException.class, () -> CompiledPatterns.open(garbage));
+
+        Path future = dir.resolve("future.kmpc");
+        Files.write(future, ByteBuffer.allocate(12)
+                .putInt(CompiledPatterns.MAGIC).putInt(CompiledPatterns.VERSION + 1).putInt(0).array());
+        IOException e = assertThrows(IOException.class, () -> CompiledPatterns.open(future));
+        assertTrue(e.getMessage().contains("version"), "Should report the unsupported version");
+    }
+
+    private static void assertCorrupt(Path file, int id) throws IOException {
+        CompiledPatterns compiled = CompiledPatterns.open(file);
+        UncheckedIOException e = assertThrows(UncheckedIOException.class, () -> compiled.search("needle", id));
+        assertTrue(e.getCause().getMessage().startsWith("Corrupt compiled pattern file"), e.getMessage());
+        assertThrows(UncheckedIOException.class, () -> compiled.pattern(id), "Should stay rejected");
+    }
+}
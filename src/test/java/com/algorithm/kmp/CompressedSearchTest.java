@@ -0,0 +1,277 @@
+package com.algorithm.kmp;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Compressed Input Search Test Suite")
+class CompressedSearchTest {
+
+    @Nested
+    @DisplayName("Streaming Matcher Tests")
+    class StreamingMatcherTests {
+
+        @Test
+        @DisplayName("Should find matches split across chunk boundaries")
+        void testMatchAcrossChunks() {
+            StreamingKMP matcher = new StreamingKMP("ABABCABAB");
+            byte[] text = "ABABDABACDABABCABAB".getBytes(StandardCharsets.US_ASCII);
+            List<Long> matches = new ArrayList<>();
+
+            // Feed one byte at a time so every match straddles a boundary
+            for (int i = 0; i < text.length; i++) {
+                matcher.feed(text, i, 1, matches);
+            }
+
+            assertIterableEquals(List.of(10L), matches, "Should find match at position 10");
+            assertEquals(text.length, matcher.position(), "Should count every consumed byte");
+        }
+
+        @Test
+        @DisplayName("Should find overlapping matches like KMP.search")
+        void testOverlappingMatches() {
+            StreamingKMP matcher = new StreamingKMP("AA");
+            byte[] text = "AAAA".getBytes(StandardCharsets.US_ASCII);
+            List<Long> matches = new ArrayList<>();
+
+            matcher.feed(text, 0, 2, matches);
+            matcher.feed(text, 2, 2, matches);
+
+            assertIterableEquals(List.of(0L, 1L, 2L), matches,
+                    "Should find matches at positions 0, 1, and 2");
+        }
+
+        @Test
+        @DisplayName("Should reject empty pattern")
+        void testEmptyPattern() {
+            assertThrows(IllegalArgumentException.class, () -> new StreamingKMP(""));
+        }
+    }
+
+    @Nested
+    @DisplayName("Pipelined Decompression Tests")
+    class PipelineTests {
+
+        @Test
+        @DisplayName("Should report gzip matches in uncompressed coordinates")
+        void testGzipMatchesKMP() throws IOException {
+            String text = generateLog(20000);
+            String pattern = "ERROR disk";
+
+            List<Long> matches = CompressedSearch.searchGzip(
+                    new ByteArrayInputStream(gzip(text)), pattern);
+
+            assertFalse(matches.isEmpty(), "Should find matches in compressed log");
+            assertIterableEquals(asLongs(KMP.search(text, pattern)), matches,
+                    "Should match KMP.search on the decompressed text");
+        }
+
+        @Test
+        @DisplayName("Should handle tiny buffers and a single-slot ring")
+        void testTinyRing() throws IOException {
+            String text = "AAAA".repeat(250);
+            String pattern = "AAA";
+
+            List<Long> matches = CompressedSearch.search(
+                    new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII)), pattern, 7, 1);
+
+            assertEquals(998, matches.size(), "Should find all overlapping matches");
+            assertIterableEquals(asLongs(KMP.search(text, pattern)), matches,
+                    "Should match KMP.search regardless of buffer size");
+        }
+
+        @Test
+        @DisplayName("Should search raw deflate streams")
+        void testDeflate() throws IOException {
+            String text = generateLog(5000);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DeflaterOutputStream out = new DeflaterOutputStream(bytes)) {
+                out.write(text.getBytes(StandardCharsets.US_ASCII));
+            }
+
+            List<Long> matches = CompressedSearch.searchDeflate(
+                    new ByteArrayInputStream(bytes.toByteArray()), "WARN");
+
+            assertIterableEquals(asLongs(KMP.search(text, "WARN")), matches,
+                    "Should match KMP.search on the inflated text");
+        }
+
+        @Test
+        @DisplayName("Should search gzip files on disk")
+        void testGzipFile(@TempDir Path dir) throws IOException {
+            String text = generateLog(3000);
+            Path file = dir.resolve("app.log.gz");
+            Files.write(file, gzip(text));
+
+            List<Long> matches = CompressedSearch.searchGzip(file, "ERROR");
+
+            assertIterableEquals(asLongs(KMP.search(text, "ERROR")), matches,
+                    "Should find the same matches as in memory");
+        }
+
+        @Test
+        @DisplayName("Should return empty list for empty input or pattern")
+        void testEdgeCases() throws IOException {
+            assertTrue(CompressedSearch.searchGzip(new ByteArrayInputStream(gzip("")), "x").isEmpty(),
+                    "Should return empty list for empty stream");
+            assertTrue(CompressedSearch.searchGzip(new ByteArrayInputStream(gzip("abc")), "").isEmpty(),
+                    "Should return empty list for empty pattern");
+        }
+
+        @Test
+        @DisplayName("Should propagate decompression errors")
+        void testCorruptStream() throws IOException {
+            byte[] data = gzip(generateLog(5000));
+            byte[] corrupt = Arrays.copyOf(data, data.length / 2);
+
+            assertThrows(IOException.class, () -> CompressedSearch.searchGzip(
+                    new ByteArrayInputStream(corrupt), "ERROR"));
+        }
+
+        @Test
+        @DisplayName("Should propagate read errors from the producer thread")
+        void testFailingSource() {
+            InputStream failing = new InputStream() {
+                @Override
+                public int read() throws IOException {
+                    throw new IOException("boom");
+                }
+            };
+
+            IOException e = assertThrows(IOException.class,
+                    () -> CompressedSearch.search(failing, "x", 16, 2));
+            assertEquals("boom", e.getMessage());
+        }
+
+        @Test
+        @DisplayName("Should not hang when the producer thread throws an unchecked exception")
+        void testUncheckedFailure() {
+            InputStream failing = new InputStream() {
+                @Override
+                public int read() {
+                    throw new IllegalStateException("broken source");
+                }
+            };
+
+            IOException e = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> assertThrows(
+                    IOException.class, () -> CompressedSearch.search(failing, "x", 16, 2)));
+            assertInstanceOf(IllegalStateException.class, e.getCause(), "Should keep the original failure");
+        }
+
+        @Test
+        @DisplayName("Should not return while the producer is still reading the source")
+        void testWaitsForProducerOnEarlyExit() throws Exception {
+            CountDownLatch reading = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            AtomicBoolean readReturned = new AtomicBoolean();
+            // Blocks like a real read: interrupts are not noticed until it returns
+            InputStream blocking = new InputStream() {
+                @Override
+                public int read() {
+                    return -1;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    reading.countDown();
+                    boolean done = false;
+                    while (!done) {
+                        try {
+                            release.await();
+                            done = true;
+                        } catch (InterruptedException e) {
+                            // Keep blocking
+                        }
+                    }
+                    readReturned.set(true);
+                    return -1;
+                }
+            };
+
+            AtomicBoolean readDoneOnReturn = new AtomicBoolean();
+            AtomicReference<Throwable> thrown = new AtomicReference<>();
+            Thread consumer = new Thread(() -> {
+                try {
+                    CompressedSearch.search(blocking, "x", 16, 2);
+                } catch (Throwable e) {
+                    thrown.set(e);
+                }
+                readDoneOnReturn.set(readReturned.get());
+            });
+            consumer.start();
+            reading.await();
+            consumer.interrupt();
+            // Without the join the consumer would return here, mid-read
+            consumer.join(200);
+            release.countDown();
+            consumer.join();
+
+            assertInstanceOf(IOException.class, thrown.get(), "Should report the interrupt");
+            assertTrue(readDoneOnReturn.get(), "Should wait for the producer's read to return");
+        }
+
+        @Test
+        @DisplayName("Should close the compressed stream after searching")
+        void testClosesStream() throws IOException {
+            AtomicBoolean closed = new AtomicBoolean();
+            InputStream compressed = new ByteArrayInputStream(gzip(generateLog(100))) {
+                @Override
+                public void close() throws IOException {
+                    closed.set(true);
+                    super.close();
+                }
+            };
+
+            CompressedSearch.searchGzip(compressed, "ERROR");
+
+            assertTrue(closed.get(), "Should close the GZIPInputStream and its source");
+        }
+    }
+
+    private static byte[] gzip(String text) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(text.getBytes(StandardCharsets.US_ASCII));
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<Long> asLongs(List<Integer> positions) {
+        return positions.stream().map(Integer::longValue).collect(Collectors.toList());
+    }
+
+    private static String generateLog(int lines) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            if (i % 97 == 0) {
+                sb.append("2025-11-15 ERROR disk full on volume ").append(i % 7).append('\n');
+            } else if (i % 31 == 0) {
+                sb.append("2025-11-15 WARN slow request id=").append(i).append('\n');
+            } else {
+                sb.append("2025-11-15 INFO request served id=").append(i).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+}
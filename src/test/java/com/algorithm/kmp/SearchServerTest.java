@@ -0,0 +1,226 @@
+package com.algorithm.kmp;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Local Search Server Test Suite")
+class SearchServerTest {
+
+    private SearchServer server;
+    private HttpClient client;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = SearchServer.start(0, 4);
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop();
+    }
+
+    @Test
+    @DisplayName("Should register a pattern and search by id over HTTP")
+    void testRegisterAndSearch() throws Exception {
+        assertEquals(200, put("/patterns/abab", "ABABCABAB").statusCode());
+
+        HttpResponse<String> response = post("/search/abab", "ABABDABACDABABCABAB");
+
+        assertEquals(200, response.statusCode());
+        assertEquals("10", response.body(), "Should find match at position 10");
+        assertEquals("", post("/search/abab", "no match here").body(),
+                "Should return empty body when nothing matches");
+    }
+
+    @Test
+    @DisplayName("Should reject unknown ids and bad requests")
+    void testErrors() throws Exception {
+        assertEquals(404, post("/search/missing", "text").statusCode());
+        assertEquals(400, put("/patterns/empty", "").statusCode());
+        assertEquals(405, client.send(HttpRequest.newBuilder(server.uri().resolve("/search/x")).GET().build(),
+                HttpResponse.BodyHandlers.ofString()).statusCode());
+    }
+
+    @Test
+    @DisplayName("Should share compiled tables between ids with the same pattern")
+    void testSharedCache() {
+        server.register("a", "needle");
+        server.register("b", "needle");
+        server.register("c", "other");
+
+        assertTrue(server.stats().contains("patterns=3 compiled_tables=2"),
+                "Should compile each distinct pattern once");
+    }
+
+    @Test
+    @DisplayName("Should drop a compiled table once no id uses it")
+    void testReplacedTablesAreReleased() {
+        for (int i = 0; i < 100; i++) {
+            server.register("x", "pattern-" + i);
+        }
+        assertTrue(server.stats().contains("patterns=1 compiled_tables=1"), server.stats());
+
+        server.register("a", "needle");
+        server.register("b", "needle");
+        server.register("a", "other");
+        assertTrue(server.stats().contains("patterns=3 compiled_tables=3"),
+                "Should keep a table while another id still uses it");
+        assertIterableEquals(List.of(2), server.search("b", "a needle"));
+
+        server.register("b", "other");
+        assertTrue(server.stats().contains("patterns=3 compiled_tables=2"), server.stats());
+        server.register("b", "other");
+        assertTrue(server.stats().contains("patterns=3 compiled_tables=2"),
+                "Re-registering the same pattern should not change the counts");
+    }
+
+    @Test
+    @DisplayName("Should return each concurrent caller its own result")
+    void testConcurrentSearches() throws Exception {
+        server.register("aa", "AA");
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<Integer>>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                String text = "A".repeat(2 + i % 10);
+                futures.add(pool.submit(() -> server.search("aa", text)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                String text = "A".repeat(2 + i % 10);
+                assertIterableEquals(KMP.search(text, "AA"), futures.get(i).get(),
+                        "Should return the matches for this request's text");
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should not make requests for a hot pattern wait on each other")
+    void testHotPatternRunsConcurrently() throws Exception {
+        server.register("hot", "needle");
+        String slowText = "a needle in a slow haystack";
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        server.beforeSearch = text -> {
+            if (text.equals(slowText)) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<List<Integer>> slow = pool.submit(() -> server.search("hot", slowText));
+            started.await();
+
+            // The first search is parked mid-request, so this only completes if
+            // the second one does not queue behind it
+            Future<List<Integer>> quick = pool.submit(() -> server.search("hot", "xxneedle"));
+            assertIterableEquals(List.of(2), quick.get(5, TimeUnit.SECONDS),
+                    "Should search while another request for the pattern is running");
+
+            release.countDown();
+            assertIterableEquals(List.of(2), slow.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should expose per-endpoint latency histograms")
+    void testStats() throws Exception {
+        put("/patterns/p", "pattern");
+        post("/search/p", "a pattern here");
+        awaitCount(SearchServer.PATTERNS, 1);
+        awaitCount(SearchServer.SEARCH, 1);
+
+        HttpResponse<String> stats = client.send(HttpRequest.newBuilder(server.uri().resolve("/stats")).build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, stats.statusCode());
+        assertTrue(stats.body().contains("/search count=1"), "Should count the search request");
+        assertTrue(stats.body().contains("/patterns count=1"), "Should count the registration");
+        assertTrue(stats.body().contains("p99_us="), "Should report p99 latency");
+        assertTrue(stats.body().matches("(?s).*/search count=1 [^\\n]* buckets_ns=\\d+:1\n.*"),
+                "Should list the search's histogram bucket: " + stats.body());
+    }
+
+    @Test
+    @DisplayName("Should drive load and report p50/p99 latency and throughput")
+    void testLoadGenerator() throws Exception {
+        Set<String> texts = ConcurrentHashMap.newKeySet();
+        server.beforeSearch = texts::add;
+        SearchLoadGenerator.Report report = SearchLoadGenerator.run(
+                server.uri(), "load", "test", "abc test abc ".repeat(100), 4, 200);
+
+        assertEquals(200, report.requests());
+        assertEquals(0, report.errors(), "Should complete every request successfully");
+        assertTrue(report.percentileNanos(50) > 0);
+        assertTrue(report.percentileNanos(99) >= report.percentileNanos(50));
+        assertTrue(report.throughput() > 0);
+        assertEquals(200, awaitCount(SearchServer.SEARCH, 200));
+        assertEquals(200, texts.size(), "Should send a different text with every request");
+    }
+
+    @Test
+    @DisplayName("Should compute histogram percentiles from power-of-two buckets")
+    void testHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(1_000);
+        }
+        histogram.record(1_000_000);
+
+        assertEquals(100, histogram.count());
+        assertEquals(1_023, histogram.percentileNanos(50), "Should fall in the 512-1023ns bucket");
+        assertEquals(1_023, histogram.percentileNanos(99));
+        assertEquals(1_000_000, histogram.percentileNanos(100), "Should cap at the observed max");
+        assertEquals("1023:99,1048575:1", histogram.buckets(), "Should list only non-empty buckets");
+        assertEquals("", new LatencyHistogram().buckets());
+    }
+
+    // Latency is recorded after the response is sent, so it can lag the client slightly
+    private long awaitCount(String endpoint, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (server.latency(endpoint).count() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return server.latency(endpoint).count();
+    }
+
+    private HttpResponse<String> put(String path, String body) throws Exception {
+        return client.send(HttpRequest.newBuilder(server.uri().resolve(path))
+                .PUT(HttpRequest.BodyPublishers.ofString(body)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String body) throws Exception {
+        return client.send(HttpRequest.newBuilder(server.uri().resolve(path))
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+}